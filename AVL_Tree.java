@@ -16,11 +16,22 @@ class TreeNode {
 // AVLTree.java
 class AVLTree {
     TreeNode root;
+    private ChangeLog changeLog; // Optional; receives every effective insert/delete when set
+    private boolean changed;     // Set by the recursive helpers when the tree is actually modified
+    private WorkloadRecorder recorder; // Optional; captures every insert/search/delete call when set
 
     public AVLTree() {
         this.root = null;
     }
 
+    public void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    public void setRecorder(WorkloadRecorder recorder) {
+        this.recorder = recorder;
+    }
+
     private int height(TreeNode node) {
         if (node == null) {
             return 0;
@@ -72,11 +83,19 @@ class AVLTree {
     }
 
     public void insert(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.INSERT, value);
+        }
+        changed = false;
         root = insertRecursive(root, value);
+        if (changed && changeLog != null) {
+            changeLog.append(ChangeLog.INSERT, value);
+        }
     }
 
     private TreeNode insertRecursive(TreeNode node, int value) {
         if (node == null) {
+            changed = true;
             return new TreeNode(value);
         }
 
@@ -120,6 +139,9 @@ class AVLTree {
     }
 
     public boolean search(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.SEARCH, value);
+        }
         return searchRecursive(root, value);
     }
 
@@ -145,7 +167,14 @@ class AVLTree {
     }
 
     public void delete(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.DELETE, value);
+        }
+        changed = false;
         root = deleteRecursive(root, value);
+        if (changed && changeLog != null) {
+            changeLog.append(ChangeLog.DELETE, value);
+        }
     }
 
     private TreeNode deleteRecursive(TreeNode node, int value) {
@@ -158,6 +187,7 @@ class AVLTree {
         } else if (value > node.value) {
             node.right = deleteRecursive(node.right, value);
         } else {
+            changed = true;
             if ((node.left == null) || (node.right == null)) {
                 TreeNode temp = null;
                 if (node.left != null) {
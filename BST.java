@@ -1,10 +1,10 @@
-// TreeNode.java (for basic BST)
-class TreeNode {
+// BSTNode.java (for basic BST)
+class BSTNode {
     int value;
-    TreeNode left;
-    TreeNode right;
+    BSTNode left;
+    BSTNode right;
 
-    public TreeNode(int value) {
+    public BSTNode(int value) {
         this.value = value;
         this.left = null;
         this.right = null;
@@ -13,19 +13,27 @@ class TreeNode {
 
 // BST.java
 public class BST {
-    TreeNode root;
+    BSTNode root;
+    private WorkloadRecorder recorder; // Optional; captures every insert/search/delete call when set
 
     public BST() {
         this.root = null;
     }
 
+    public void setRecorder(WorkloadRecorder recorder) {
+        this.recorder = recorder;
+    }
+
     public void insert(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.INSERT, value);
+        }
         root = insertRecursive(root, value);
     }
 
-    private TreeNode insertRecursive(TreeNode root, int value) {
+    private BSTNode insertRecursive(BSTNode root, int value) {
         if (root == null) {
-            return new TreeNode(value);
+            return new BSTNode(value);
         }
 
         if (value < root.value) {
@@ -37,10 +45,13 @@ public class BST {
     }
 
     public boolean search(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.SEARCH, value);
+        }
         return searchRecursive(root, value);
     }
 
-    private boolean searchRecursive(TreeNode root, int value) {
+    private boolean searchRecursive(BSTNode root, int value) {
         if (root == null) {
             return false;
         }
@@ -53,8 +64,8 @@ public class BST {
         }
     }
 
-    private TreeNode minValueNode(TreeNode node) {
-        TreeNode current = node;
+    private BSTNode minValueNode(BSTNode node) {
+        BSTNode current = node;
         while (current.left != null) {
             current = current.left;
         }
@@ -62,10 +73,13 @@ public class BST {
     }
 
     public void delete(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.DELETE, value);
+        }
         root = deleteRecursive(root, value);
     }
 
-    private TreeNode deleteRecursive(TreeNode root, int value) {
+    private BSTNode deleteRecursive(BSTNode root, int value) {
         if (root == null) {
             return root;
         }
@@ -81,14 +95,14 @@ public class BST {
                 return root.left;
             }
 
-            TreeNode minNode = minValueNode(root.right);
+            BSTNode minNode = minValueNode(root.right);
             root.value = minNode.value;
             root.right = deleteRecursive(root.right, minNode.value);
         }
         return root;
     }
 
-    public void inorderTraversal(TreeNode node) {
+    public void inorderTraversal(BSTNode node) {
         if (node != null) {
             inorderTraversal(node.left);
             System.out.print(node.value + " ");
@@ -0,0 +1,203 @@
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ChangeLog.java (single-producer/single-consumer ring buffer of RedBlackTree/AVLTree key mutations)
+public class ChangeLog {
+    public static final byte INSERT = 1;
+    public static final byte DELETE = 2;
+    // Largest number of records in one batch; keeps the encoded batch well inside an int length
+    public static final int MAX_BATCH = 1 << 20;
+
+    // Receives replicated mutations on the follower side
+    public interface Replica {
+        void insert(int key);
+        void delete(int key);
+    }
+
+    private final byte[] ops;
+    private final int[] keys;
+    private final int mask;
+    private final AtomicLong published; // Sequence number of the last appended record
+    private final AtomicLong drained;   // Sequence number of the last record handed to a stream
+    private volatile boolean closed;    // Set once no more records may be appended
+    private volatile Throwable failure; // Why the log was closed, or null for a clean close
+    private byte[] batch;               // Drainer-owned encoding buffer for one batch
+
+    public ChangeLog(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.ops = new byte[capacity];
+        this.keys = new int[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLong(0);
+        this.drained = new AtomicLong(0);
+        this.closed = false;
+        this.failure = null;
+        this.batch = new byte[256];
+    }
+
+    // Called by the tree that owns this log; waits for the drainer when the ring is full.
+    // Throws IllegalStateException once the log is closed or failed; the tree mutation that
+    // triggered the append has already happened, so replicas must be re-seeded after a failure.
+    public long append(byte op, int key) {
+        ensureOpen();
+        long seq = published.get() + 1;
+        while (seq - drained.get() > ops.length) {
+            ensureOpen();
+            Thread.yield();
+        }
+        int slot = (int) (seq - 1) & mask;
+        ops[slot] = op;
+        keys[slot] = key;
+        published.lazySet(seq); // Publish the slot contents before the sequence
+        return seq;
+    }
+
+    // Writes up to maxBatch (capped at MAX_BATCH) pending records as one batch; returns the number written.
+    // The batch is encoded in full and handed to the stream in a single write. If that write
+    // fails the stream may hold a partial batch, so the log is failed rather than retried;
+    // followers reject the truncated tail with an EOFException before touching the replica.
+    public int drainTo(OutputStream out, int maxBatch) throws IOException {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatch);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Change log has failed", failure);
+        }
+        long from = drained.get() + 1;
+        long to = Math.min(published.get(), from + Math.min(maxBatch, MAX_BATCH) - 1);
+        if (to < from) {
+            return 0;
+        }
+        int count = (int) (to - from + 1);
+
+        // Batch layout (big-endian): first sequence, record count, then (op, key) per record
+        int length = 12 + 5 * count;
+        if (length > batch.length) {
+            batch = new byte[Integer.highestOneBit(length - 1) << 1];
+        }
+        int position = putLong(0, from);
+        position = putInt(position, count);
+        for (long seq = from; seq <= to; seq++) {
+            int slot = (int) (seq - 1) & mask;
+            batch[position++] = ops[slot];
+            position = putInt(position, keys[slot]);
+        }
+
+        try {
+            out.write(batch, 0, position);
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+        drained.lazySet(to); // Free the slots for the producer
+        return count;
+    }
+
+    private int putLong(int position, long value) {
+        position = putInt(position, (int) (value >>> 32));
+        return putInt(position, (int) value);
+    }
+
+    private int putInt(int position, int value) {
+        batch[position++] = (byte) (value >>> 24);
+        batch[position++] = (byte) (value >>> 16);
+        batch[position++] = (byte) (value >>> 8);
+        batch[position++] = (byte) value;
+        return position;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException(failure == null ? "Change log is closed" : "Change log has failed", failure);
+        }
+    }
+
+    // Stops further appends; records already appended can still be drained
+    public void close() {
+        closed = true;
+    }
+
+    // Marks the log as failed so a blocked or later append throws instead of waiting forever
+    public void fail(Throwable cause) {
+        failure = cause;
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public long lastSequence() {
+        return published.get();
+    }
+
+    public long drainedSequence() {
+        return drained.get();
+    }
+}
+
+// ChangeLogFollower.java (applies drained batches to a replica tree)
+class ChangeLogFollower {
+    private final ChangeLog.Replica replica;
+    private byte[] ops;
+    private int[] keys;
+    private volatile long appliedSequence;
+
+    public ChangeLogFollower(ChangeLog.Replica replica) {
+        this.replica = replica;
+        this.ops = new byte[256];
+        this.keys = new int[256];
+        this.appliedSequence = 0;
+    }
+
+    // Reads and applies one batch; returns the number of records applied, or -1 at end of stream.
+    // A batch cut short anywhere after its first byte raises EOFException instead, and a
+    // record count outside 1..MAX_BATCH raises IOException before anything is applied.
+    public int applyBatch(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return -1;
+        }
+        long from = first;
+        for (int i = 0; i < 7; i++) {
+            from = (from << 8) | in.readUnsignedByte();
+        }
+        int count = in.readInt();
+        if (count <= 0 || count > ChangeLog.MAX_BATCH) {
+            throw new IOException("Corrupt change batch: record count " + count + " at sequence " + from);
+        }
+        if (from != appliedSequence + 1) {
+            throw new IllegalStateException("Replication gap: expected sequence " + (appliedSequence + 1) + " but got " + from);
+        }
+
+        if (count > ops.length) {
+            ops = new byte[Integer.highestOneBit(count - 1) << 1];
+            keys = new int[ops.length];
+        }
+        for (int i = 0; i < count; i++) {
+            ops[i] = in.readByte();
+            keys[i] = in.readInt();
+        }
+
+        // Decode the whole batch first so the replica is only touched once the batch is complete
+        for (int i = 0; i < count; i++) {
+            if (ops[i] == ChangeLog.INSERT) {
+                replica.insert(keys[i]);
+            } else if (ops[i] == ChangeLog.DELETE) {
+                replica.delete(keys[i]);
+            } else {
+                throw new IllegalStateException("Unknown change record op " + ops[i] + " at sequence " + (from + i));
+            }
+        }
+        appliedSequence = from + count - 1;
+        return count;
+    }
+
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+}
@@ -0,0 +1,164 @@
+// IntervalVisitor.java (callback for interval queries)
+interface IntervalVisitor {
+    void visit(int lo, int hi);
+}
+
+// IntervalTree.java (Red-Black Tree keyed on the low endpoint, augmented with subtree max)
+public class IntervalTree extends RedBlackTree {
+    private int size;
+
+    public IntervalTree() {
+        super();
+        this.size = 0;
+    }
+
+    public void insert(int lo, int hi) {
+        if (lo > hi) {
+            throw new IllegalArgumentException("Invalid interval [" + lo + ", " + hi + "]");
+        }
+        insertNode(new RBNode(lo, hi));
+        size++;
+    }
+
+    @Override
+    public void insert(int value) {
+        insert(value, value);
+    }
+
+    public boolean delete(int lo, int hi) {
+        RBNode z = searchInterval(root, lo, hi);
+        if (z == NIL) {
+            return false;
+        }
+        deleteNode(z);
+        size--;
+        return true;
+    }
+
+    @Override
+    public void delete(int value) {
+        delete(value, value);
+    }
+
+    // Plain keys are point intervals, so this agrees with insert(int) and delete(int)
+    @Override
+    public boolean search(int value) {
+        return contains(value, value);
+    }
+
+    @Override
+    public void setChangeLog(ChangeLog changeLog) {
+        throw new UnsupportedOperationException("Change logs carry single keys and cannot replicate an IntervalTree");
+    }
+
+    @Override
+    public void setRecorder(WorkloadRecorder recorder) {
+        throw new UnsupportedOperationException("Workload traces carry single keys and cannot record an IntervalTree");
+    }
+
+    public boolean contains(int lo, int hi) {
+        return searchInterval(root, lo, hi) != NIL;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private RBNode searchInterval(RBNode node, int lo, int hi) {
+        // Rotations can leave equal low endpoints on either side, so both subtrees are tried on a tie
+        if (node == NIL || node.max < hi) {
+            return NIL;
+        }
+        if (lo < node.value) {
+            return searchInterval(node.left, lo, hi);
+        } else if (lo > node.value) {
+            return searchInterval(node.right, lo, hi);
+        }
+        if (node.hi == hi) {
+            return node;
+        }
+        RBNode found = searchInterval(node.left, lo, hi);
+        if (found != NIL) {
+            return found;
+        }
+        return searchInterval(node.right, lo, hi);
+    }
+
+    // Visits every stored interval containing x; same cost as overlapping(x, x, visitor)
+    public void stab(int x, IntervalVisitor visitor) {
+        overlapping(x, x, visitor);
+    }
+
+    // Visits every stored interval overlapping [lo, hi], in order of low endpoint.
+    // Pruning on subtree max and low endpoint bounds this by O(min(n, k log n)) for k hits,
+    // not O(log n + k): each reported interval can cost its own O(log n) descent.
+    public void overlapping(int lo, int hi, IntervalVisitor visitor) {
+        overlappingRecursive(root, lo, hi, visitor);
+    }
+
+    private void overlappingRecursive(RBNode node, int lo, int hi, IntervalVisitor visitor) {
+        // Nothing in this subtree ends at or after lo
+        if (node == NIL || node.max < lo) {
+            return;
+        }
+        overlappingRecursive(node.left, lo, hi, visitor);
+        // Everything from here rightwards starts after hi
+        if (node.value > hi) {
+            return;
+        }
+        if (node.hi >= lo) {
+            visitor.visit(node.value, node.hi);
+        }
+        overlappingRecursive(node.right, lo, hi, visitor);
+    }
+
+    @Override
+    public void inorderTraversal() {
+        inorderRecursive(root);
+        System.out.println();
+    }
+
+    private void inorderRecursive(RBNode node) {
+        if (node != NIL) {
+            inorderRecursive(node.left);
+            System.out.print("[" + node.value + ", " + node.hi + "]max=" + node.max + " ");
+            inorderRecursive(node.right);
+        }
+    }
+
+    public static void main(String[] args) {
+        IntervalTree it = new IntervalTree();
+        it.insert(15, 20);
+        it.insert(10, 30);
+        it.insert(17, 19);
+        it.insert(5, 20);
+        it.insert(12, 15);
+        it.insert(30, 40);
+
+        System.out.print("Interval Tree Inorder Traversal: ");
+        it.inorderTraversal(); // Expected (intervals ordered by low endpoint)
+
+        IntervalVisitor printer = (lo, hi) -> System.out.print("[" + lo + ", " + hi + "] ");
+
+        System.out.print("Interval Tree Stab 18: ");
+        it.stab(18, printer); // Expected: [5, 20] [10, 30] [15, 20] [17, 19]
+        System.out.println();
+
+        System.out.print("Interval Tree Overlapping [31, 35]: ");
+        it.overlapping(31, 35, printer); // Expected: [30, 40]
+        System.out.println();
+
+        System.out.print("Interval Tree Overlapping [0, 4]: ");
+        it.overlapping(0, 4, printer); // Expected: (none)
+        System.out.println();
+
+        it.delete(10, 30);
+        System.out.print("Interval Tree Stab 25 after deleting [10, 30]: ");
+        it.stab(25, printer); // Expected: (none)
+        System.out.println();
+
+        System.out.println("Interval Tree Contains [17, 19]: " + it.contains(17, 19)); // Expected: true
+        System.out.println("Interval Tree Size: " + it.size()); // Expected: 5
+        System.out.println("Interval Tree Search 5 (only [5, 20] stored): " + it.search(5)); // Expected: false
+    }
+}
@@ -1,13 +1,21 @@
 // RBNode.java (for Red-Black Tree)
 class RBNode {
-    int value;
+    int value; // Low endpoint when the node holds an interval
+    int hi;    // High endpoint; equals value for plain keys
+    int max;   // Largest hi in the subtree rooted at this node
     RBNode left;
     RBNode right;
     RBNode parent;
     boolean color; // true for RED, false for BLACK
 
     public RBNode(int value) {
-        this.value = value;
+        this(value, value);
+    }
+
+    public RBNode(int lo, int hi) {
+        this.value = lo;
+        this.hi = hi;
+        this.max = hi;
         this.left = null;
         this.right = null;
         this.parent = null;
@@ -17,15 +25,39 @@ class RBNode {
 
 // RedBlackTree.java
 public class RedBlackTree {
-    private RBNode root;
-    private final RBNode NIL;
+    protected RBNode root;
+    protected final RBNode NIL;
+    private ChangeLog changeLog; // Optional; receives every insert/delete when set
+    private WorkloadRecorder recorder; // Optional; captures every insert/search/delete call when set
 
     public RedBlackTree() {
         NIL = new RBNode(0);
         NIL.color = false; // NIL node is always BLACK
+        NIL.max = Integer.MIN_VALUE; // NIL never raises a subtree max
         root = NIL;
     }
 
+    // Replication ships plain keys; IntervalTree rejects a change log because records cannot hold an interval
+    public void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    // Traces hold plain keys; IntervalTree rejects a recorder for the same reason as a change log
+    public void setRecorder(WorkloadRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    private void updateMax(RBNode node) {
+        node.max = Math.max(node.hi, Math.max(node.left.max, node.right.max));
+    }
+
+    private void updateMaxUpward(RBNode node) {
+        while (node != null) {
+            updateMax(node);
+            node = node.parent;
+        }
+    }
+
     private void leftRotate(RBNode x) {
         RBNode y = x.right;
         x.right = y.left;
@@ -42,6 +74,10 @@ public class RedBlackTree {
         }
         y.left = x;
         x.parent = y;
+
+        // Update subtree maxima (x is now below y)
+        updateMax(x);
+        updateMax(y);
     }
 
     private void rightRotate(RBNode y) {
@@ -60,10 +96,23 @@ public class RedBlackTree {
         }
         x.right = y;
         y.parent = x;
+
+        // Update subtree maxima (y is now below x)
+        updateMax(y);
+        updateMax(x);
     }
 
     public void insert(int value) {
-        RBNode z = new RBNode(value);
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.INSERT, value);
+        }
+        insertNode(new RBNode(value));
+        if (changeLog != null) {
+            changeLog.append(ChangeLog.INSERT, value);
+        }
+    }
+
+    protected void insertNode(RBNode z) {
         z.left = NIL;
         z.right = NIL;
         RBNode y = null;
@@ -71,6 +120,7 @@ public class RedBlackTree {
 
         while (x != NIL) {
             y = x;
+            x.max = Math.max(x.max, z.hi); // z will end up below x
             if (z.value < x.value) {
                 x = x.left;
             } else {
@@ -131,6 +181,9 @@ public class RedBlackTree {
     }
 
     public boolean search(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.SEARCH, value);
+        }
         RBNode node = root;
         while (node != NIL) {
             if (value == node.value) {
@@ -163,11 +216,20 @@ public class RedBlackTree {
     }
 
     public void delete(int value) {
+        if (recorder != null) {
+            recorder.record(WorkloadRecorder.DELETE, value);
+        }
         RBNode z = searchNode(value);
         if (z == NIL) {
             return;
         }
+        deleteNode(z);
+        if (changeLog != null) {
+            changeLog.append(ChangeLog.DELETE, value);
+        }
+    }
 
+    protected void deleteNode(RBNode z) {
         RBNode y = z;
         boolean yOriginalColor = y.color;
         RBNode x;
@@ -195,6 +257,9 @@ public class RedBlackTree {
             y.color = z.color;
         }
 
+        // Every node whose subtree lost z (or moved y) lies on the path from x.parent to the root
+        updateMaxUpward(x.parent);
+
         if (!yOriginalColor) {
             deleteFixUp(x);
         }
@@ -0,0 +1,262 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+
+// ReplicationDemo.java (ships tree mutations to replicas through a file segment and a local socket)
+public class ReplicationDemo {
+    private static final int OPERATIONS = 200000;
+    private static final int KEY_RANGE = 50000;
+    private static final int BATCH_SIZE = 1024;
+
+    // Drains the log on a background thread until the log is closed and empty.
+    // On a write failure the log is failed, so the leader's next append throws instead of blocking.
+    private static Thread startDrainer(ChangeLog log, DataOutputStream out) {
+        Thread drainer = new Thread(() -> {
+            try {
+                while (true) {
+                    int written = log.drainTo(out, BATCH_SIZE);
+                    if (written > 0) {
+                        out.flush();
+                    } else if (log.isClosed() && log.drainedSequence() == log.lastSequence()) {
+                        break;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                out.close();
+            } catch (IOException e) {
+                log.fail(e);
+                System.err.println("Change log drain failed: " + e);
+            }
+        });
+        drainer.start();
+        return drainer;
+    }
+
+    private static void runLeader(Random random, ChangeLog.Replica leader) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            if (random.nextInt(3) == 0) {
+                leader.delete(key);
+            } else {
+                leader.insert(key);
+            }
+        }
+    }
+
+    private static int countMismatches(IntPredicate a, IntPredicate b) {
+        // Trees expose no iteration, so compare membership over the whole key range
+        int mismatches = 0;
+        for (int key = 0; key < KEY_RANGE; key++) {
+            if (a.test(key) != b.test(key)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Red-Black Tree leader -> file segment -> Red-Black Tree follower
+        RedBlackTree rbtLeader = new RedBlackTree();
+        ChangeLog rbtLog = new ChangeLog(1 << 16);
+        rbtLeader.setChangeLog(rbtLog);
+
+        File segment = File.createTempFile("rbt-changes", ".seg");
+        segment.deleteOnExit();
+        Thread rbtDrainer = startDrainer(rbtLog,
+                new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segment))));
+
+        // Segment lag: records appended by the leader but not yet written to the file
+        LagSampler rbtLag = new LagSampler(rbtLog::lastSequence, rbtLog::drainedSequence);
+        Thread rbtSampler = rbtLag.start();
+
+        long start = System.nanoTime();
+        runLeader(new Random(42), new RedBlackTreeReplica(rbtLeader));
+        long leaderNanos = System.nanoTime() - start;
+        rbtLog.close();
+        rbtDrainer.join();
+        rbtLag.stop();
+        rbtSampler.join();
+
+        RedBlackTree rbtFollower = new RedBlackTree();
+        ChangeLogFollower rbtApplier = new ChangeLogFollower(new RedBlackTreeReplica(rbtFollower));
+        start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            while (rbtApplier.applyBatch(in) >= 0) {
+                // Apply every batch in the segment
+            }
+        }
+        long applyNanos = System.nanoTime() - start;
+
+        System.out.println("Red-Black Tree records shipped: " + rbtLog.lastSequence() + " (" + segment.length() + " bytes)");
+        System.out.printf("Red-Black Tree leader throughput (excluding final drain): %.0f ops/s%n", OPERATIONS * 1e9 / leaderNanos);
+        System.out.printf("Red-Black Tree max segment lag: %d records, %.3f ms%n", rbtLag.maxLagRecords(), rbtLag.maxLagNanos() / 1e6);
+        System.out.printf("Red-Black Tree follower apply throughput: %.0f records/s%n", rbtApplier.appliedSequence() * 1e9 / applyNanos);
+        System.out.println("Red-Black Tree replica mismatches: "
+                + countMismatches(rbtLeader::search, rbtFollower::search)); // Expected: 0
+
+        // AVL Tree leader -> loopback socket -> AVL Tree follower applying live
+        AVLTree avlLeader = new AVLTree();
+        ChangeLog avlLog = new ChangeLog(1 << 16);
+        avlLeader.setChangeLog(avlLog);
+        AVLTree avlFollower = new AVLTree();
+        ChangeLogFollower avlApplier = new ChangeLogFollower(new AVLTreeReplica(avlFollower));
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Thread follower = new Thread(() -> {
+                try (Socket socket = server.accept();
+                     DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                    while (avlApplier.applyBatch(in) >= 0) {
+                        // Apply batches as they arrive
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            follower.start();
+
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+            Thread avlDrainer = startDrainer(avlLog,
+                    new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+
+            // Replication lag: records appended by the leader but not yet applied on the follower
+            LagSampler avlLag = new LagSampler(avlLog::lastSequence, avlApplier::appliedSequence);
+            Thread avlSampler = avlLag.start();
+
+            start = System.nanoTime();
+            runLeader(new Random(7), new AVLTreeReplica(avlLeader));
+            avlLog.close();
+            avlDrainer.join();
+            follower.join();
+            long endToEndNanos = System.nanoTime() - start;
+            avlLag.stop();
+            avlSampler.join();
+
+            System.out.println("AVL Tree records shipped: " + avlLog.lastSequence());
+            System.out.printf("AVL Tree end-to-end replication throughput: %.0f records/s%n", avlApplier.appliedSequence() * 1e9 / endToEndNanos);
+            System.out.printf("AVL Tree max replication lag: %d records, %.3f ms%n", avlLag.maxLagRecords(), avlLag.maxLagNanos() / 1e6);
+            System.out.println("AVL Tree final replication lag: " + (avlLog.lastSequence() - avlApplier.appliedSequence())); // Expected: 0
+            System.out.println("AVL Tree replica mismatches: "
+                    + countMismatches(avlLeader::search, avlFollower::search)); // Expected: 0
+        }
+    }
+}
+
+// LagSampler.java (tracks how far a follower position trails the leader, in records and in time;
+// time lag is an upper bound accurate to the sampling interval)
+class LagSampler {
+    private final LongSupplier leader;
+    private final LongSupplier follower;
+    private final AtomicBoolean stopped;
+    // Ring of (sequence, time) samples taken whenever the leader sequence advances
+    private final long[] sampleSequences;
+    private final long[] sampleNanos;
+    private int head;
+    private int tail;
+    private long caughtUpNanos; // Time of the newest sample the follower has fully caught up with
+    private long maxLagRecords;
+    private long maxLagNanos;
+
+    LagSampler(LongSupplier leader, LongSupplier follower) {
+        this.leader = leader;
+        this.follower = follower;
+        this.stopped = new AtomicBoolean(false);
+        this.sampleSequences = new long[1 << 16];
+        this.sampleNanos = new long[1 << 16];
+        this.head = 0;
+        this.tail = 0;
+    }
+
+    Thread start() {
+        Thread thread = new Thread(this::run);
+        thread.start();
+        return thread;
+    }
+
+    void stop() {
+        stopped.set(true);
+    }
+
+    private void run() {
+        int mask = sampleSequences.length - 1;
+        long lastSequence = 0;
+        caughtUpNanos = System.nanoTime();
+        while (!stopped.get()) {
+            long now = System.nanoTime();
+            long published = leader.getAsLong();
+            if (published != lastSequence && tail - head < sampleSequences.length) {
+                sampleSequences[tail & mask] = published;
+                sampleNanos[tail & mask] = now;
+                tail++;
+                lastSequence = published;
+            }
+
+            long caughtUp = follower.getAsLong();
+            while (head < tail && sampleSequences[head & mask] <= caughtUp) {
+                caughtUpNanos = sampleNanos[head & mask];
+                head++;
+            }
+            maxLagRecords = Math.max(maxLagRecords, published - caughtUp);
+            // The oldest pending record was published after the last caught-up sample
+            if (published > caughtUp) {
+                maxLagNanos = Math.max(maxLagNanos, now - caughtUpNanos);
+            }
+            Thread.yield();
+        }
+    }
+
+    // Read after joining the sampler thread
+    long maxLagRecords() {
+        return maxLagRecords;
+    }
+
+    long maxLagNanos() {
+        return maxLagNanos;
+    }
+}
+
+// RedBlackTreeReplica.java (adapts RedBlackTree to ChangeLog.Replica)
+class RedBlackTreeReplica implements ChangeLog.Replica {
+    private final RedBlackTree tree;
+
+    RedBlackTreeReplica(RedBlackTree tree) {
+        this.tree = tree;
+    }
+
+    public void insert(int key) {
+        tree.insert(key);
+    }
+
+    public void delete(int key) {
+        tree.delete(key);
+    }
+}
+
+// AVLTreeReplica.java (adapts AVLTree to ChangeLog.Replica)
+class AVLTreeReplica implements ChangeLog.Replica {
+    private final AVLTree tree;
+
+    AVLTreeReplica(AVLTree tree) {
+        this.tree = tree;
+    }
+
+    public void insert(int key) {
+        tree.insert(key);
+    }
+
+    public void delete(int key) {
+        tree.delete(key);
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+// WorkloadRecorder.java (captures insert/search/delete calls into a compact binary trace)
+public class WorkloadRecorder implements Closeable {
+    public static final byte INSERT = 1;
+    public static final byte SEARCH = 2;
+    public static final byte DELETE = 3;
+
+    private static final int MAGIC = 0x54524331; // "TRC1"
+    private static final int MAX_RECORD_BYTES = 16; // op + 10-byte time delta + 5-byte key
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private final long startNanos;
+    private long lastNanos;
+    private long recordCount;
+
+    public WorkloadRecorder(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[1 << 16];
+        this.position = 0;
+        this.startNanos = System.nanoTime();
+        this.lastNanos = 0;
+        this.recordCount = 0;
+
+        buffer[position++] = (byte) (MAGIC >>> 24);
+        buffer[position++] = (byte) (MAGIC >>> 16);
+        buffer[position++] = (byte) (MAGIC >>> 8);
+        buffer[position++] = (byte) MAGIC;
+    }
+
+    // Record layout: op byte, varint nanos since previous record, zigzag varint key
+    public void record(byte op, int key) {
+        if (position > buffer.length - MAX_RECORD_BYTES) {
+            flushBuffer();
+        }
+        long now = System.nanoTime() - startNanos;
+        buffer[position++] = op;
+        writeVarLong(now - lastNanos);
+        writeVarLong(((key << 1) ^ (key >> 31)) & 0xFFFFFFFFL);
+        lastNanos = now;
+        recordCount++;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void flushBuffer() {
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    // Fully decoded trace, so replay timing is not affected by parsing
+    public static class Trace {
+        public final byte[] ops;
+        public final int[] keys;
+        public final long[] nanos; // Offset of each call from the start of recording
+        public final int length;
+
+        private Trace(byte[] ops, int[] keys, long[] nanos, int length) {
+            this.ops = ops;
+            this.keys = keys;
+            this.nanos = nanos;
+            this.length = length;
+        }
+    }
+
+    public static Trace read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a workload trace");
+        }
+
+        byte[] ops = new byte[1024];
+        int[] keys = new int[1024];
+        long[] nanos = new long[1024];
+        int length = 0;
+        long time = 0;
+        while (true) {
+            int op = data.read();
+            if (op < 0) {
+                break;
+            }
+            if (op != INSERT && op != SEARCH && op != DELETE) {
+                throw new IOException("Unknown trace op " + op + " at record " + length);
+            }
+            if (length == ops.length) {
+                ops = Arrays.copyOf(ops, length * 2);
+                keys = Arrays.copyOf(keys, length * 2);
+                nanos = Arrays.copyOf(nanos, length * 2);
+            }
+            time += readVarLong(data);
+            int zigzag = (int) readVarLong(data);
+            ops[length] = (byte) op;
+            keys[length] = (zigzag >>> 1) ^ -(zigzag & 1);
+            nanos[length] = time;
+            length++;
+        }
+        return new Trace(ops, keys, nanos, length);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.read();
+            if (b < 0) {
+                throw new EOFException("Truncated trace record");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in trace");
+    }
+}
@@ -0,0 +1,297 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+// ReplayEngine.java (common surface of the trees a trace can be replayed against)
+interface ReplayEngine {
+    void insert(int key);
+    boolean search(int key);
+    void delete(int key);
+    // Returns {size, height, sum of node depths}
+    long[] shape();
+}
+
+// WorkloadReplay.java (replays a recorded trace against BST, AVLTree or RedBlackTree)
+public class WorkloadReplay {
+    private final WorkloadRecorder.Trace trace;
+    private final boolean recordedSpeed;
+
+    public WorkloadReplay(WorkloadRecorder.Trace trace, boolean recordedSpeed) {
+        this.trace = trace;
+        this.recordedSpeed = recordedSpeed;
+    }
+
+    public static ReplayEngine engine(String name) {
+        switch (name) {
+            case "bst":
+                return new BSTEngine(new BST());
+            case "avl":
+                return new AVLEngine(new AVLTree());
+            case "rbt":
+                return new RedBlackTreeEngine(new RedBlackTree());
+            default:
+                throw new IllegalArgumentException("Unknown engine '" + name + "' (expected bst, avl or rbt)");
+        }
+    }
+
+    public void run(String name, ReplayEngine engine) {
+        long[] latencies = new long[trace.length];
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < trace.length; i++) {
+            long opStart = System.nanoTime();
+            if (recordedSpeed) {
+                // Latency is measured from the scheduled time, so falling behind the recording shows up as latency
+                long scheduled = start + trace.nanos[i];
+                while (opStart < scheduled) {
+                    if (scheduled - opStart > 2000000) {
+                        sleepQuietly((scheduled - opStart) / 1000000 - 1);
+                    } else {
+                        Thread.yield();
+                    }
+                    opStart = System.nanoTime();
+                }
+                opStart = scheduled;
+            }
+
+            int key = trace.keys[i];
+            switch (trace.ops[i]) {
+                case WorkloadRecorder.INSERT:
+                    engine.insert(key);
+                    break;
+                case WorkloadRecorder.SEARCH:
+                    engine.search(key);
+                    break;
+                default:
+                    engine.delete(key);
+                    break;
+            }
+            latencies[i] = System.nanoTime() - opStart;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        report(name, engine, latencies, elapsed, allocatedBefore, allocatedAfter);
+    }
+
+    private void report(String name, ReplayEngine engine, long[] latencies, long elapsed, long allocatedBefore, long allocatedAfter) {
+        Arrays.sort(latencies);
+        long[] shape = engine.shape();
+
+        System.out.println(name + " replay (" + (recordedSpeed ? "recorded" : "maximum") + " speed, " + trace.length + " ops)");
+        System.out.printf("  throughput: %.0f ops/s%n", trace.length * 1e9 / elapsed);
+        System.out.println("  latency ns: p50=" + percentile(latencies, 0.50) + " p90=" + percentile(latencies, 0.90)
+                + " p99=" + percentile(latencies, 0.99) + " p99.9=" + percentile(latencies, 0.999)
+                + " max=" + (latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+        if (allocatedBefore < 0 || allocatedAfter < 0) {
+            System.out.println("  allocated: n/a");
+        } else {
+            System.out.println("  allocated: " + (allocatedAfter - allocatedBefore) + " bytes");
+        }
+        System.out.printf("  shape: size=%d height=%d avgDepth=%.2f%n",
+                shape[0], shape[1], shape[0] == 0 ? 0.0 : (double) shape[2] / shape[0]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    // Bytes allocated by the current thread, or -1 when the JVM does not expose it
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static File recordSampleTrace() throws IOException {
+        File file = File.createTempFile("tree-workload", ".trc");
+        file.deleteOnExit();
+        RedBlackTree rbt = new RedBlackTree();
+        Random random = new Random(42);
+        try (WorkloadRecorder recorder = new WorkloadRecorder(new FileOutputStream(file))) {
+            rbt.setRecorder(recorder);
+            // Ascending inserts followed by a mixed phase, which separates the balanced trees from BST
+            for (int i = 0; i < 5000; i++) {
+                rbt.insert(i);
+            }
+            for (int i = 0; i < 100000; i++) {
+                int key = random.nextInt(20000);
+                int op = random.nextInt(10);
+                if (op < 6) {
+                    rbt.search(key);
+                } else if (op < 8) {
+                    rbt.insert(key);
+                } else {
+                    rbt.delete(key);
+                }
+            }
+            rbt.setRecorder(null);
+            System.out.println("Recorded " + recorder.recordCount() + " ops to " + file + " (" + file.length() + " bytes)");
+        }
+        return file;
+    }
+
+    // Usage: java WorkloadReplay <trace> <bst|avl|rbt> [recorded|max]
+    // With no arguments, records a sample trace and replays it against all three trees at maximum speed
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            File file = recordSampleTrace();
+            WorkloadRecorder.Trace trace;
+            try (InputStream in = new FileInputStream(file)) {
+                trace = WorkloadRecorder.read(in);
+            }
+            WorkloadReplay replay = new WorkloadReplay(trace, false);
+            for (String name : new String[] { "bst", "avl", "rbt" }) {
+                replay.run(name, engine(name));
+            }
+            return;
+        }
+        String mode = args.length > 2 ? args[2] : "max";
+        if (args.length < 2 || args.length > 3 || !(mode.equals("recorded") || mode.equals("max"))) {
+            System.err.println("Usage: java WorkloadReplay <trace> <bst|avl|rbt> [recorded|max]");
+            System.exit(2);
+        }
+
+        WorkloadRecorder.Trace trace;
+        try (InputStream in = new FileInputStream(args[0])) {
+            trace = WorkloadRecorder.read(in);
+        }
+        new WorkloadReplay(trace, mode.equals("recorded")).run(args[1], engine(args[1]));
+    }
+}
+
+// BSTEngine.java (adapts BST to ReplayEngine)
+class BSTEngine implements ReplayEngine {
+    private final BST tree;
+
+    BSTEngine(BST tree) {
+        this.tree = tree;
+    }
+
+    public void insert(int key) {
+        tree.insert(key);
+    }
+
+    public boolean search(int key) {
+        return tree.search(key);
+    }
+
+    public void delete(int key) {
+        tree.delete(key);
+    }
+
+    public long[] shape() {
+        long[] shape = new long[3];
+        shapeRecursive(tree.root, 1, shape);
+        return shape;
+    }
+
+    private void shapeRecursive(BSTNode node, int depth, long[] shape) {
+        // Iterate down the right spine so degenerate (list-shaped) trees do not overflow the stack
+        while (node != null) {
+            shape[0]++;
+            shape[1] = Math.max(shape[1], depth);
+            shape[2] += depth;
+            shapeRecursive(node.left, depth + 1, shape);
+            node = node.right;
+            depth++;
+        }
+    }
+}
+
+// AVLEngine.java (adapts AVLTree to ReplayEngine)
+class AVLEngine implements ReplayEngine {
+    private final AVLTree tree;
+
+    AVLEngine(AVLTree tree) {
+        this.tree = tree;
+    }
+
+    public void insert(int key) {
+        tree.insert(key);
+    }
+
+    public boolean search(int key) {
+        return tree.search(key);
+    }
+
+    public void delete(int key) {
+        tree.delete(key);
+    }
+
+    public long[] shape() {
+        long[] shape = new long[3];
+        shapeRecursive(tree.root, 1, shape);
+        return shape;
+    }
+
+    private void shapeRecursive(TreeNode node, int depth, long[] shape) {
+        if (node != null) {
+            shape[0]++;
+            shape[1] = Math.max(shape[1], depth);
+            shape[2] += depth;
+            shapeRecursive(node.left, depth + 1, shape);
+            shapeRecursive(node.right, depth + 1, shape);
+        }
+    }
+}
+
+// RedBlackTreeEngine.java (adapts RedBlackTree to ReplayEngine)
+class RedBlackTreeEngine implements ReplayEngine {
+    private final RedBlackTree tree;
+
+    RedBlackTreeEngine(RedBlackTree tree) {
+        this.tree = tree;
+    }
+
+    public void insert(int key) {
+        tree.insert(key);
+    }
+
+    public boolean search(int key) {
+        return tree.search(key);
+    }
+
+    public void delete(int key) {
+        tree.delete(key);
+    }
+
+    public long[] shape() {
+        long[] shape = new long[3];
+        shapeRecursive(tree.root, 1, shape);
+        return shape;
+    }
+
+    private void shapeRecursive(RBNode node, int depth, long[] shape) {
+        if (node != tree.NIL) {
+            shape[0]++;
+            shape[1] = Math.max(shape[1], depth);
+            shape[2] += depth;
+            shapeRecursive(node.left, depth + 1, shape);
+            shapeRecursive(node.right, depth + 1, shape);
+        }
+    }
+}